@@ -1,3 +1,11 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /*
  * @lc app=leetcode id=1143 lang=java
  *
@@ -23,5 +31,271 @@ class Solution {
         return dp[s1.length][s2.length];
     }
 }
+
+/**
+ * Hirschberg 分治求 LCS 的具体对齐（不只是长度），工作内存 O(min(n,m))
+ * 把 a 从中间切开，正着算 a 前一半对 b 每个前缀的 LCS 行、倒着算后一半对 b 每个后缀的 LCS 行，
+ * 两行相加最大的位置就是 b 的切分点，然后两半各自递归。两半互不相关，子问题够大时丢给 ForkJoinPool 并行。
+ * 每个子问题只写自己那段 a 的结果（matchOfA[i] 是和 a[i] 配对的 b 下标，没配上是 -1），不需要加锁。
+ *
+ * 按行 diff 时先把每一行映射成 int（相同的行同一个编号），再对两个 int 序列对齐，见 diff。
+ * 只要长度时用 lcsLength：位并行算法，较短的串每 64 个元素一个 long，O(ceil(m/64) * n)；
+ * 带 ForkJoinPool 的 lcsLength 交给 WavefrontExecutor 按块并行。
+ */
+final class Hirschberg {
+    // 子问题格子数小于这个值就直接填表回溯
+    private static final int BASE_CELLS = 1 << 12;
+    // 子问题格子数小于这个值就不再拆成并行任务
+    private static final long PARALLEL_CELLS = 1L << 22;
+
+    private Hirschberg() {
+    }
+
+    /** 返回 matchOfA：matchOfA[i] 是 LCS 里和 a[i] 配对的 b 的下标，不在 LCS 里是 -1 */
+    static int[] align(int[] a, int[] b, ForkJoinPool pool) {
+        if (a.length < b.length) {
+            // 行的长度取短的那个，结果再翻过来
+            int[] matchOfB = align(b, a, pool);
+            int[] matchOfA = new int[a.length];
+            Arrays.fill(matchOfA, -1);
+            for (int j = 0; j < matchOfB.length; j++)
+                if (matchOfB[j] >= 0)
+                    matchOfA[matchOfB[j]] = j;
+            return matchOfA;
+        }
+        int[] matchOfA = new int[a.length];
+        Arrays.fill(matchOfA, -1);
+        AlignTask task = new AlignTask(a, 0, a.length, b, 0, b.length, matchOfA);
+        if (pool == null)
+            task.compute();
+        else
+            pool.invoke(task);
+        return matchOfA;
+    }
+
+    static String lcs(String a, String b, ForkJoinPool pool) {
+        int[] matchOfA = align(toInts(a), toInts(b), pool);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < matchOfA.length; i++)
+            if (matchOfA[i] >= 0)
+                sb.append(a.charAt(i));
+        return sb.toString();
+    }
+
+    /** 按行 diff，返回编辑脚本：" " 开头是两边都有的行，"-" 只在 a 里，"+" 只在 b 里 */
+    static List<String> diff(List<String> a, List<String> b, ForkJoinPool pool) {
+        Map<String, Integer> ids = new HashMap<>();
+        int[] x = new int[a.size()], y = new int[b.size()];
+        for (int i = 0; i < x.length; i++)
+            x[i] = ids.computeIfAbsent(a.get(i), k -> ids.size());
+        for (int j = 0; j < y.length; j++)
+            y[j] = ids.computeIfAbsent(b.get(j), k -> ids.size());
+        int[] matchOfA = align(x, y, pool);
+        List<String> script = new ArrayList<>();
+        int j = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (matchOfA[i] < 0) {
+                script.add("-" + a.get(i));
+                continue;
+            }
+            for (; j < matchOfA[i]; j++)
+                script.add("+" + b.get(j));
+            script.add(" " + a.get(i));
+            j++;
+        }
+        for (; j < y.length; j++)
+            script.add("+" + b.get(j));
+        return script;
+    }
+
+    static int lcsLength(String a, String b) {
+        return lcsLength(toInts(a), toInts(b));
+    }
+
+    /**
+     * 位并行 LCS 长度（Allison-Dix / Hyyrö）：V 的第 i 位为 0 表示这一列在第 i 行处 LCS 加了 1，
+     * 每读 b 的一个元素 c：U = V & M[c]，V = (V + U) | (V - U)；U 是 V 的子集，所以 V - U 就是 V & ~U，只有加法要跨块进位。
+     */
+    static int lcsLength(int[] a, int[] b) {
+        if (a.length < b.length) {
+            int[] t = a;
+            a = b;
+            b = t;
+        }
+        int m = b.length;   // b 是较短的，按位放进 long
+        if (m == 0)
+            return 0;
+        int[] alphabet = b.clone();
+        Arrays.sort(alphabet);
+        int sigma = 0;
+        for (int i = 0; i < alphabet.length; i++)
+            if (i == 0 || alphabet[i] != alphabet[i - 1])
+                alphabet[sigma++] = alphabet[i];
+        int words = (m + 63) >>> 6;
+        long[] match = new long[sigma * words];
+        for (int i = 0; i < m; i++)
+            match[Arrays.binarySearch(alphabet, 0, sigma, b[i]) * words + (i >>> 6)] |= 1L << i;
+
+        long[] v = new long[words];
+        Arrays.fill(v, -1L);
+        for (int c : a) {
+            int k = Arrays.binarySearch(alphabet, 0, sigma, c);
+            if (k < 0)
+                continue;
+            int base = k * words;
+            long carry = 0;
+            for (int w = 0; w < words; w++) {
+                long x = v[w];
+                long u = x & match[base + w];
+                long sum = x + u + carry;
+                // 无符号加法溢出就向下一块进位
+                carry = Long.compareUnsigned(sum, x) < 0 || (carry != 0 && sum == x) ? 1 : 0;
+                v[w] = sum | (x & ~u);
+            }
+        }
+        int zeros = 0;
+        for (int w = 0; w < words; w++) {
+            long x = v[w];
+            if (w == words - 1 && (m & 63) != 0)
+                x |= -1L << (m & 63);   // 超出 m 的位不算
+            zeros += Long.bitCount(~x);
+        }
+        return zeros;
+    }
+
+    /** 超长的两个串：用 WavefrontExecutor 按块并行，只保留块边界 */
+    static int lcsLength(String a, String b, ForkJoinPool pool) {
+        WavefrontExecutor.Result r = new WavefrontExecutor(pool).run(a.length(), b.length(),
+                new WavefrontExecutor.Recurrence() {
+                    public long top(int j) {
+                        return 0;
+                    }
+
+                    public long left(int i) {
+                        return 0;
+                    }
+
+                    public long cell(int i, int j, long diag, long up, long left) {
+                        return a.charAt(i - 1) == b.charAt(j - 1) ? diag + 1 : Math.max(up, left);
+                    }
+                });
+        return (int) r.last;
+    }
+
+    private static int[] toInts(String s) {
+        int[] r = new int[s.length()];
+        for (int i = 0; i < r.length; i++)
+            r[i] = s.charAt(i);
+        return r;
+    }
+
+    private static final class AlignTask extends RecursiveAction {
+        private final int[] a, b;
+        private final int aLo, aHi, bLo, bHi;
+        private final int[] matchOfA;
+
+        AlignTask(int[] a, int aLo, int aHi, int[] b, int bLo, int bHi, int[] matchOfA) {
+            this.a = a;
+            this.aLo = aLo;
+            this.aHi = aHi;
+            this.b = b;
+            this.bLo = bLo;
+            this.bHi = bHi;
+            this.matchOfA = matchOfA;
+        }
+
+        @Override
+        protected void compute() {
+            int n = aHi - aLo, m = bHi - bLo;
+            if (n == 0 || m == 0)
+                return;
+            if (n == 1) {
+                for (int j = bLo; j < bHi; j++) {
+                    if (b[j] == a[aLo]) {
+                        matchOfA[aLo] = j;
+                        break;
+                    }
+                }
+                return;
+            }
+            if ((long) n * m <= BASE_CELLS) {
+                fillTable();
+                return;
+            }
+            int mid = (aLo + aHi) >>> 1;
+            int[] front = forwardRow(mid);
+            int[] back = backwardRow(mid);
+            int split = 0, best = -1;
+            for (int k = 0; k <= m; k++) {
+                int total = front[k] + back[m - k];
+                if (total > best) {
+                    best = total;
+                    split = k;
+                }
+            }
+            AlignTask left = new AlignTask(a, aLo, mid, b, bLo, bLo + split, matchOfA);
+            AlignTask right = new AlignTask(a, mid, aHi, b, bLo + split, bHi, matchOfA);
+            if ((long) n * m >= PARALLEL_CELLS && inForkJoinPool()) {
+                invokeAll(left, right);
+            } else {
+                left.compute();
+                right.compute();
+            }
+        }
+
+        // row[k] = LCS(a[aLo, mid), b[bLo, bLo + k))
+        private int[] forwardRow(int mid) {
+            int m = bHi - bLo;
+            int[] row = new int[m + 1];
+            for (int i = aLo; i < mid; i++) {
+                int diag = 0;
+                int c = a[i];
+                for (int k = 1; k <= m; k++) {
+                    int up = row[k];
+                    row[k] = b[bLo + k - 1] == c ? diag + 1 : Math.max(up, row[k - 1]);
+                    diag = up;
+                }
+            }
+            return row;
+        }
+
+        // row[k] = LCS(a[mid, aHi), b[bHi - k, bHi))
+        private int[] backwardRow(int mid) {
+            int m = bHi - bLo;
+            int[] row = new int[m + 1];
+            for (int i = aHi - 1; i >= mid; i--) {
+                int diag = 0;
+                int c = a[i];
+                for (int k = 1; k <= m; k++) {
+                    int up = row[k];
+                    row[k] = b[bHi - k] == c ? diag + 1 : Math.max(up, row[k - 1]);
+                    diag = up;
+                }
+            }
+            return row;
+        }
+
+        // 子问题足够小，直接填表再回溯
+        private void fillTable() {
+            int n = aHi - aLo, m = bHi - bLo;
+            int[][] dp = new int[n + 1][m + 1];
+            for (int i = 1; i <= n; i++)
+                for (int j = 1; j <= m; j++)
+                    dp[i][j] = a[aLo + i - 1] == b[bLo + j - 1] ? dp[i - 1][j - 1] + 1 : Math.max(dp[i - 1][j], dp[i][j - 1]);
+            int i = n, j = m;
+            while (i > 0 && j > 0) {
+                if (a[aLo + i - 1] == b[bLo + j - 1]) {
+                    matchOfA[aLo + i - 1] = bLo + j - 1;
+                    i--;
+                    j--;
+                } else if (dp[i - 1][j] >= dp[i][j - 1]) {
+                    i--;
+                } else {
+                    j--;
+                }
+            }
+        }
+    }
+}
 // @lc code=end
 
@@ -1,3 +1,5 @@
+import java.util.concurrent.ForkJoinPool;
+
 /*
  * @lc app=leetcode id=115 lang=java
  *
@@ -35,6 +37,28 @@ class Solution {
          }
          return dp[t.length()][s.length()];
     }
+
+    /**
+     * 同样的递推交给 WavefrontExecutor：行是 t、列是 s，按块沿反对角线并行，只保留块边界，
+     * 不用开 (t.length()+1)*(s.length()+1) 的表。用 long 计算、最后转回 int，溢出时和上面 int 的结果一致。
+     */
+    public int numDistinct(String s, String t, ForkJoinPool pool) {
+        WavefrontExecutor.Result r = new WavefrontExecutor(pool).run(t.length(), s.length(),
+                new WavefrontExecutor.Recurrence() {
+                    public long top(int j) {
+                        return 1;
+                    }
+
+                    public long left(int i) {
+                        return 0;
+                    }
+
+                    public long cell(int i, int j, long diag, long up, long left) {
+                        return t.charAt(i - 1) == s.charAt(j - 1) ? left + diag : left;
+                    }
+                });
+        return (int) r.last;
+    }
 }
 // @lc code=end
 
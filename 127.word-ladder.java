@@ -42,6 +42,159 @@ class Solution {
         }
         return 0;
     }
+
+    // 双向 BFS + 通配符索引版本；同一个词典要查很多次时直接复用 WordLadderIndex
+    public int ladderLengthBidirectional(String beginWord, String endWord, List<String> wordList) {
+        return new WordLadderIndex(wordList).ladderLength(beginWord, endWord);
+    }
+}
+
+/**
+ * 词典建一次索引，之后可以反复查询 ladderLength
+ * 每个单词编号为 int，每个通配模式（比如 h*t）也编号，建成两张 CSR 表：
+ * 单词 -> 它的 L 个模式，模式 -> 匹配它的所有单词（h*t -> [hot, hit]）。
+ * 查询时做双向 BFS，每次扩展较小的一侧；找邻居只是在 int 数组里走，不再拼字符串、不再查 HashSet。
+ * visited 用“本次查询的编号”打标记，不用每次清空数组。查询会改内部的临时数组，不是线程安全的。
+ */
+class WordLadderIndex {
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private final Map<String, Integer> patternIds = new HashMap<>();
+    private final int[] wordPatternStart;   // 单词 w 的模式在 wordPatterns[wordPatternStart[w] .. wordPatternStart[w+1])
+    private final int[] wordPatterns;
+    private final int[] patternWordStart;   // 模式 p 匹配的单词在 patternWords[patternWordStart[p] .. patternWordStart[p+1])
+    private final int[] patternWords;
+
+    // 查询用的临时数组，最后一个位置留给不在词典里的 beginWord
+    private final int[] seenA, seenB, distA, distB;
+    private int[] frontA, frontB, next;
+    private final int[] beginPatterns;
+    private int stamp;
+
+    public WordLadderIndex(List<String> wordList) {
+        List<String> words = new ArrayList<>();
+        for (String w : wordList) {
+            if (!wordIds.containsKey(w)) {
+                wordIds.put(w, words.size());
+                words.add(w);
+            }
+        }
+        int n = words.size();
+        wordPatternStart = new int[n + 1];
+        for (int i = 0; i < n; i++)
+            wordPatternStart[i + 1] = wordPatternStart[i] + words.get(i).length();
+        wordPatterns = new int[wordPatternStart[n]];
+        int maxLength = 0;
+        List<Integer> patternSizes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            String w = words.get(i);
+            maxLength = Math.max(maxLength, w.length());
+            for (int p = 0; p < w.length(); p++) {
+                String pattern = w.substring(0, p) + '*' + w.substring(p + 1);
+                Integer id = patternIds.get(pattern);
+                if (id == null) {
+                    id = patternIds.size();
+                    patternIds.put(pattern, id);
+                    patternSizes.add(0);
+                }
+                patternSizes.set(id, patternSizes.get(id) + 1);
+                wordPatterns[wordPatternStart[i] + p] = id;
+            }
+        }
+        int patterns = patternIds.size();
+        patternWordStart = new int[patterns + 1];
+        for (int p = 0; p < patterns; p++)
+            patternWordStart[p + 1] = patternWordStart[p] + patternSizes.get(p);
+        patternWords = new int[patternWordStart[patterns]];
+        int[] fill = Arrays.copyOf(patternWordStart, patterns);
+        for (int i = 0; i < n; i++) {
+            for (int k = wordPatternStart[i]; k < wordPatternStart[i + 1]; k++)
+                patternWords[fill[wordPatterns[k]]++] = i;
+        }
+
+        seenA = new int[n + 1];
+        seenB = new int[n + 1];
+        distA = new int[n + 1];
+        distB = new int[n + 1];
+        frontA = new int[n + 1];
+        frontB = new int[n + 1];
+        next = new int[n + 1];
+        beginPatterns = new int[maxLength];
+    }
+
+    public int ladderLength(String beginWord, String endWord) {
+        Integer end = wordIds.get(endWord);
+        if (end == null)
+            return 0;
+        Integer begin = wordIds.get(beginWord);
+        if (begin == null) {
+            // 不在词典里的起点只需要它的模式编号，用最后一个编号代表
+            if (beginWord.length() != endWord.length())
+                return 0;
+            begin = seenA.length - 1;
+            for (int p = 0; p < beginWord.length(); p++) {
+                Integer id = patternIds.get(beginWord.substring(0, p) + '*' + beginWord.substring(p + 1));
+                beginPatterns[p] = id == null ? -1 : id;
+            }
+        }
+        if (begin.intValue() == end.intValue())
+            return 1;
+
+        stamp++;
+        seenA[begin] = stamp;
+        distA[begin] = 0;
+        seenB[end] = stamp;
+        distB[end] = 0;
+        frontA[0] = begin;
+        frontB[0] = end;
+        int sizeA = 1, sizeB = 1;
+        int depthA = 0, depthB = 0;
+        int beginId = seenA.length - 1;
+        while (sizeA > 0 && sizeB > 0) {
+            boolean forward = sizeA <= sizeB;
+            int[] front = forward ? frontA : frontB;
+            int size = forward ? sizeA : sizeB;
+            int[] seen = forward ? seenA : seenB, dist = forward ? distA : distB;
+            int[] otherSeen = forward ? seenB : seenA, otherDist = forward ? distB : distA;
+            int depth = forward ? depthA : depthB;
+            int best = Integer.MAX_VALUE;
+            int nextSize = 0;
+            for (int f = 0; f < size; f++) {
+                int u = front[f];
+                int from = u == beginId ? 0 : wordPatternStart[u];
+                int to = u == beginId ? beginWord.length() : wordPatternStart[u + 1];
+                for (int k = from; k < to; k++) {
+                    int pattern = u == beginId ? beginPatterns[k] : wordPatterns[k];
+                    if (pattern < 0)
+                        continue;
+                    for (int j = patternWordStart[pattern]; j < patternWordStart[pattern + 1]; j++) {
+                        int v = patternWords[j];
+                        if (otherSeen[v] == stamp)
+                            best = Math.min(best, depth + otherDist[v] + 2);
+                        if (seen[v] != stamp) {
+                            seen[v] = stamp;
+                            dist[v] = depth + 1;
+                            next[nextSize++] = v;
+                        }
+                    }
+                }
+            }
+            if (best != Integer.MAX_VALUE)
+                return best;
+            // 新的一层换到 front 的位置，旧的 front 数组留作下一次的 next
+            int[] t = next;
+            next = front;
+            if (forward) {
+                frontA = t;
+                sizeA = nextSize;
+                depthA++;
+            } else {
+                frontB = t;
+                sizeB = nextSize;
+                depthB++;
+            }
+        }
+        return 0;
+    }
 }
 // @lc code=end
 
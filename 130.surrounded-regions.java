@@ -32,6 +32,39 @@ class Solution {
         }
     }
 
+    // 显式栈版本（GridTraversal.java），边缘的 O 连成一大片时也不会栈溢出
+    public void solveIterative(char[][] board) {
+        if (board == null || board.length == 0) return;
+        int m = board.length;
+        int n = board[0].length;
+        GridTraversal traversal = new GridTraversal(m, n, false);
+        GridTraversal.CellVisitor mark = cell -> {
+            int r = cell / n, c = cell % n;
+            if (board[r][c] != 'O') return false;
+            board[r][c] = '#';
+            return true;
+        };
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                boolean isEdge = i == 0 || j == 0 || i == m - 1 || j == n - 1;
+                if (isEdge && board[i][j] == 'O') {
+                    traversal.flood(traversal.cell(i, j), mark);
+                }
+            }
+        }
+
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                if (board[i][j] == 'O') {
+                    board[i][j] = 'X';
+                }
+                if (board[i][j] == '#') {
+                    board[i][j] = 'O';
+                }
+            }
+        }
+    }
+
     public void dfs(char[][] board, int i, int j) {
         if (i < 0 || j < 0 || i >= board.length  || j >= board[0].length || board[i][j] == 'X' || board[i][j] == '#') {
             // board[i][j] == '#' 说明已经搜索过了. 
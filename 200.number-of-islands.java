@@ -25,6 +25,29 @@ class Solution {
         return count;
     }
 
+    // 显式栈版本（GridTraversal.java），大网格不会栈溢出，也不给每个格子分配 int[]
+    public int numIslandsIterative(char[][] grid) {
+        if (grid == null || grid.length == 0) return 0;
+        int m = grid.length, n = grid[0].length;
+        GridTraversal traversal = new GridTraversal(m, n, false);
+        GridTraversal.CellVisitor sink = cell -> {
+            int r = cell / n, c = cell % n;
+            if (grid[r][c] != '1') return false;
+            grid[r][c] = '0';
+            return true;
+        };
+        int count = 0;
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                if (grid[i][j] == '1') {
+                    traversal.flood(traversal.cell(i, j), sink);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
     private void bfs(char[][] grid, int i, int j) {
         Queue <int[]> list = new LinkedList<>();
         list.add(new int[]{i,j});
@@ -54,5 +77,40 @@ class Solution {
     }
 
 }
+
+/**
+ * 在线统计岛屿数：格子一个个变成陆地，每次 addLand 之后立刻返回当前岛屿数（UnionFind.java）
+ * 每次只和四个邻居 union，不需要重新扫描整个网格。
+ */
+class OnlineIslands {
+    private final int m, n;
+    private final boolean[] land;
+    private final UnionFind uf;
+
+    public OnlineIslands(int m, int n) {
+        this.m = m;
+        this.n = n;
+        this.land = new boolean[m * n];
+        this.uf = new UnionFind(m * n);
+        uf.adjustCount(-m * n);   // 一开始都是水，不算分量
+    }
+
+    public int addLand(int i, int j) {
+        int cell = i * n + j;
+        if (land[cell])
+            return uf.count();
+        land[cell] = true;
+        uf.adjustCount(1);
+        if (i > 0 && land[cell - n]) uf.union(cell, cell - n);
+        if (i < m - 1 && land[cell + n]) uf.union(cell, cell + n);
+        if (j > 0 && land[cell - 1]) uf.union(cell, cell - 1);
+        if (j < n - 1 && land[cell + 1]) uf.union(cell, cell + 1);
+        return uf.count();
+    }
+
+    public int count() {
+        return uf.count();
+    }
+}
 // @lc code=end
 
@@ -1,6 +1,14 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /*
  * @lc app=leetcode id=212 lang=java
@@ -27,6 +35,51 @@ class Solution {
         return new LinkedList<String>(resultSet);
     }
 
+    /** 显式栈版本（GridTraversal.java），不递归 */
+    public List<String> findWordsIterative(char[][] board, String[] words) {
+        Trie trie = new Trie();
+        int maxLength = 0;
+        for (String word : words) {
+            trie.insert(word);
+            maxLength = Math.max(maxLength, word.length());
+        }
+        final int longest = maxLength;
+
+        int m = board.length, n = board[0].length;
+        boolean[] visited = new boolean[m * n];
+        // path[d] 是走到第 d 层之前所在的 trie 节点
+        TrieNode[] path = new TrieNode[longest + 1];
+        path[0] = trie.root;
+        Set<String> resultSet = new HashSet<>();
+        GridTraversal traversal = new GridTraversal(m, n, false);
+        GridTraversal.PathVisitor visitor = new GridTraversal.PathVisitor() {
+            public boolean enter(int cell, int depth) {
+                if (visited[cell] || depth >= longest) return false;
+                TrieNode node = path[depth].children[board[cell / n][cell % n] - 'a'];
+                if (node == null) return false;
+                if (node.word != null) resultSet.add(node.word);
+                visited[cell] = true;
+                path[depth + 1] = node;
+                return true;
+            }
+
+            public void exit(int cell, int depth) {
+                visited[cell] = false;
+            }
+        };
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < n; ++j) {
+                traversal.backtrack(traversal.cell(i, j), visitor);
+            }
+        }
+        return new LinkedList<String>(resultSet);
+    }
+
+    /** 并行版本，结果和上面的串行版本包含相同的单词 */
+    public List<String> findWords(char[][] board, String[] words, ForkJoinPool pool) {
+        return new ParallelWordSearch(board, words).run(pool);
+    }
+
     private void search(char[][] board,boolean[][]visited,int i,int j,int m,int n,TrieNode node,Set<String>result){
         if(i<0 || j<0 ||i>=m ||j>=n ||visited[i][j]) 
            return;
@@ -45,6 +98,123 @@ class Solution {
     }
 }
 
+/**
+ * findWords 的 ForkJoin 并行版本
+ * 起点格子按行切成若干块（每块不超过 TILE_CELLS 个格子），各块在 ForkJoinPool 上并行 DFS。
+ * visited 位图在每个叶子任务开始时分配，任务结束就可以回收，不会像 ThreadLocal 那样在长期存在的池（比如 commonPool）
+ * 的工作线程里每次调用留下一份。位图要覆盖整个棋盘，所以叶子块至少是 m*n/(4*并行度) 个格子，
+ * 每次调用总共只分配大约 4*并行度 份。
+ * 找到单词时用 CAS 把节点的 word 置空来认领，只有认领成功的线程会把它加入结果，
+ * 并把路径上每个节点的 remaining 减一；remaining 为 0 的分支其他线程也不会再进去。
+ * word/remaining 是普通字段，通过 VarHandle 做 CAS 和 opaque 读；读到旧值只会多搜一点，不影响结果。
+ */
+class ParallelWordSearch {
+    private static final int TILE_CELLS = 4096;
+    private static final VarHandle WORD;
+    private static final VarHandle REMAINING;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            WORD = lookup.findVarHandle(TrieNode.class, "word", String.class);
+            REMAINING = lookup.findVarHandle(TrieNode.class, "remaining", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final char[][] board;
+    private final int m, n;
+    private final TrieNode root;
+    private final int maxDepth;
+    private final ConcurrentLinkedQueue<String> found = new ConcurrentLinkedQueue<>();
+    private int leafCells;
+
+    ParallelWordSearch(char[][] board, String[] words) {
+        this.board = board;
+        this.m = board.length;
+        this.n = board[0].length;
+        Trie trie = new Trie();
+        int longest = 0;
+        for (String word : words) {
+            trie.insert(word);
+            longest = Math.max(longest, word.length());
+        }
+        this.root = trie.root;
+        this.maxDepth = longest;
+        countWords(root);
+    }
+
+    List<String> run(ForkJoinPool pool) {
+        leafCells = Math.max(TILE_CELLS, (int) ((long) m * n / (4L * pool.getParallelism())));
+        pool.invoke(new Tile(0, m));
+        return new LinkedList<String>(new HashSet<>(found));
+    }
+
+    private class Tile extends RecursiveAction {
+        private final int fromRow, toRow;
+
+        Tile(int fromRow, int toRow) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if ((toRow - fromRow) * n > leafCells && toRow - fromRow > 1) {
+                int mid = (fromRow + toRow) >>> 1;
+                invokeAll(new Tile(fromRow, mid), new Tile(mid, toRow));
+                return;
+            }
+            long[] bits = new long[(m * n + 63) >>> 6];
+            TrieNode[] path = new TrieNode[maxDepth + 1];
+            path[0] = root;
+            for (int i = fromRow; i < toRow; i++) {
+                for (int j = 0; j < n; j++) {
+                    if ((int) REMAINING.getOpaque(root) == 0)
+                        return;   // 所有单词都找到了
+                    search(bits, path, 0, i, j);
+                }
+            }
+        }
+    }
+
+    private void search(long[] bits, TrieNode[] path, int depth, int i, int j) {
+        if (i < 0 || j < 0 || i >= m || j >= n)
+            return;
+        int cell = i * n + j;
+        if ((bits[cell >>> 6] & (1L << cell)) != 0)
+            return;
+        TrieNode node = path[depth].children[board[i][j] - 'a'];
+        if (node == null || (int) REMAINING.getOpaque(node) == 0)
+            return;
+        path[depth + 1] = node;
+        String word = (String) WORD.getOpaque(node);
+        if (word != null && WORD.compareAndSet(node, word, (String) null)) {
+            found.add(word);
+            for (int k = 0; k <= depth + 1; k++)
+                REMAINING.getAndAdd(path[k], -1);
+        }
+
+        bits[cell >>> 6] |= 1L << cell;
+        search(bits, path, depth + 1, i - 1, j);
+        search(bits, path, depth + 1, i + 1, j);
+        search(bits, path, depth + 1, i, j - 1);
+        search(bits, path, depth + 1, i, j + 1);
+        bits[cell >>> 6] &= ~(1L << cell);
+    }
+
+    private static int countWords(TrieNode node) {
+        int count = node.word != null ? 1 : 0;
+        for (TrieNode child : node.children) {
+            if (child != null)
+                count += countWords(child);
+        }
+        node.remaining = count;
+        return count;
+    }
+}
+
 class Trie{
     public TrieNode root = new TrieNode();
     public void insert(String word){
@@ -64,6 +234,104 @@ class Trie{
 class TrieNode{
     public TrieNode[] children = new TrieNode[26];
     public String word = null;
+    // 并行搜索用：子树里还没找到的单词数，为 0 时整棵子树不用再搜
+    public int remaining = 0;
+    // Aho-Corasick 用：失配时跳转的节点，以及沿失配链最近的一个单词结尾节点
+    public TrieNode fail = null;
+    public TrieNode output = null;
+}
+
+interface MatchListener {
+    /** 找到一个关键词，end 是它在整个输入里的结束位置（不含），开始位置是 end - word.length() */
+    void onMatch(String word, long end);
+}
+
+/**
+ * 在已经 insert 好关键词的 Trie 上补上失配指针，变成 Aho-Corasick 自动机，
+ * 一遍扫描输入就能找出所有关键词的所有出现位置，不需要回退输入。
+ * 失配指针另外存在 fail 字段里，不改 children，所以同一棵 Trie 还能继续给 findWords 用。
+ * 自动机记住当前状态和已读字符数，输入可以分多次 feed，跨缓冲区边界的关键词也能找到。
+ * 只认 'a'~'z'，其他字符会让状态回到根。
+ */
+class AhoCorasick {
+    private final TrieNode root;
+    private TrieNode state;
+    private long position;
+
+    public AhoCorasick(Trie trie) {
+        this.root = trie.root;
+        this.state = root;
+        // BFS：父节点的 fail 总是先于子节点算好
+        ArrayDeque<TrieNode> queue = new ArrayDeque<>();
+        root.fail = root;
+        for (TrieNode child : root.children) {
+            if (child != null) {
+                child.fail = root;
+                child.output = null;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            TrieNode node = queue.poll();
+            for (int c = 0; c < 26; c++) {
+                TrieNode child = node.children[c];
+                if (child == null)
+                    continue;
+                TrieNode f = node.fail;
+                while (f != root && f.children[c] == null)
+                    f = f.fail;
+                child.fail = f.children[c] != null ? f.children[c] : root;
+                child.output = child.fail.word != null ? child.fail : child.fail.output;
+                queue.add(child);
+            }
+        }
+    }
+
+    /** 从头扫描一段完整的输入 */
+    public void scan(CharSequence text, MatchListener listener) {
+        reset();
+        feed(text, listener);
+    }
+
+    /** 从头扫描 Reader 里的全部内容，按块读取 */
+    public void scan(Reader reader, MatchListener listener) throws IOException {
+        reset();
+        char[] buffer = new char[8192];
+        int n;
+        while ((n = reader.read(buffer)) != -1) {
+            for (int i = 0; i < n; i++)
+                step(buffer[i], listener);
+        }
+    }
+
+    /** 接着上一次的状态继续扫描下一块输入 */
+    public void feed(CharSequence chunk, MatchListener listener) {
+        for (int i = 0; i < chunk.length(); i++)
+            step(chunk.charAt(i), listener);
+    }
+
+    public void reset() {
+        state = root;
+        position = 0;
+    }
+
+    private void step(char ch, MatchListener listener) {
+        position++;
+        int c = ch - 'a';
+        if (c < 0 || c >= 26) {
+            state = root;
+            return;
+        }
+        TrieNode node = state;
+        while (node != root && node.children[c] == null)
+            node = node.fail;
+        node = node.children[c] != null ? node.children[c] : root;
+        state = node;
+        if (node.word != null)
+            listener.onMatch(node.word, position);
+        for (TrieNode out = node.output; out != null; out = out.output)
+            listener.onMatch(out.word, position);
+    }
 }
 
 // @lc code=end
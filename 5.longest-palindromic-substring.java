@@ -1,3 +1,10 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
 /*
  * @lc app=leetcode id=5 lang=java
  *
@@ -12,6 +19,7 @@ class Solution {
          * (1)嵌套循环，枚举i，j（起点和终点）,判断该子串是否回文
          * （2）中间向两边扩张法
          * （3）动态规划:DP[i][j]
+         * （4）Manacher，O(n)，见 longestPalindromeManacher
          */
 
          int n = s.length();
@@ -29,6 +37,160 @@ class Solution {
          return res;
 
     }
+
+    /**
+     * 动态规划交给 WavefrontExecutor：dp[i][j] 依赖 dp[i+1][j-1]，把行号换成 r = n - i、列号 c = j + 1，
+     * 就变成只依赖左上角的二维递推。格子里存回文长度（不是回文存 0），执行器顺带求出最大值和位置。
+     */
+    public String longestPalindrome(String s, ForkJoinPool pool) {
+        int n = s.length();
+        WavefrontExecutor.Result r = new WavefrontExecutor(pool).run(n, n,
+                new WavefrontExecutor.Recurrence() {
+                    public long top(int j) {
+                        return 0;
+                    }
+
+                    public long left(int i) {
+                        return 0;
+                    }
+
+                    public long cell(int row, int col, long diag, long up, long left) {
+                        int i = n - row, j = col - 1;
+                        if (j < i || s.charAt(i) != s.charAt(j))
+                            return 0;
+                        return j - i < 2 || diag > 0 ? j - i + 1 : 0;
+                    }
+                });
+        if (r.max <= 0)
+            return "";
+        int start = n - r.maxRow;
+        return s.substring(start, start + (int) r.max);
+    }
+
+    /** Manacher，O(n) 时间和内存，最后只截一次子串 */
+    public String longestPalindromeManacher(String s) {
+        int[] range = Manacher.longest(s);
+        return s.substring(range[0], range[1]);
+    }
+}
+
+/**
+ * Manacher 算法：O(n) 求出以每个位置为中心的最长回文
+ * 维护已知回文里右端最靠右的 [l, r]，新中心 i 落在里面时，它的半径至少是对称位置 l + r - i 的半径（不超出 r），
+ * 只需从这里继续往外扩，r 只会右移，所以总共 O(n)。
+ * 奇数长度和偶数长度分两遍做，两遍共用一个 int[n] 的半径数组，内存 4n 字节。
+ * 结果都用下标 [start, end) 表示，不生成子串。
+ */
+final class Manacher {
+    interface PalindromeListener {
+        /** 一个极大回文（不能再向两边扩）s[start, end) */
+        void palindrome(int start, int end);
+    }
+
+    private Manacher() {
+    }
+
+    /** 最长回文子串的 [start, end)，有多个时取最靠左的；空串返回 {0, 0} */
+    static int[] longest(CharSequence s) {
+        int[] best = new int[2];
+        forEachMaximal(s, 1, (start, end) -> {
+            int len = end - start, bestLen = best[1] - best[0];
+            if (len > bestLen || (len == bestLen && start < best[0])) {
+                best[0] = start;
+                best[1] = end;
+            }
+        });
+        return best;
+    }
+
+    /**
+     * 按中心依次报告所有长度 >= minLength 的极大回文：先是所有奇数长度的（中心从左到右），再是所有偶数长度的。
+     * 每个中心的半径一算出来就不再变，所以是边算边报告，不需要先收集。
+     * s 可以是 MappedCharSequence 这样映射进来的大文件，只额外用一个 int[s.length()]。
+     */
+    static void forEachMaximal(CharSequence s, int minLength, PalindromeListener listener) {
+        int n = s.length();
+        int[] radius = new int[n];
+        // 奇数长度：radius[i] = k 表示 s[i-k+1, i+k) 是回文
+        for (int i = 0, l = 0, r = -1; i < n; i++) {
+            int k = i > r ? 1 : Math.min(radius[l + r - i], r - i + 1);
+            while (i - k >= 0 && i + k < n && s.charAt(i - k) == s.charAt(i + k))
+                k++;
+            radius[i] = k;
+            if (i + k - 1 > r) {
+                l = i - k + 1;
+                r = i + k - 1;
+            }
+            if (2 * k - 1 >= minLength)
+                listener.palindrome(i - k + 1, i + k);
+        }
+        // 偶数长度：radius[i] = k 表示 s[i-k, i+k) 是回文（中心在 i-1 和 i 之间）
+        for (int i = 0, l = 0, r = -1; i < n; i++) {
+            int k = i > r ? 0 : Math.min(radius[l + r - i + 1], r - i + 1);
+            while (i + k < n && i - k - 1 >= 0 && s.charAt(i + k) == s.charAt(i - k - 1))
+                k++;
+            radius[i] = k;
+            if (i + k - 1 > r) {
+                l = i - k;
+                r = i + k - 1;
+            }
+            if (k > 0 && 2 * k >= minLength)
+                listener.palindrome(i - k, i + k);
+        }
+    }
+}
+
+/**
+ * 把文件映射成 CharSequence（每个字节一个字符，按 ISO-8859-1 解释），给 Manacher 处理基因序列这类大文件用
+ * 数据留在页缓存里，不复制进堆；单个 MappedByteBuffer 最多 2^31 - 1 字节，更大的文件需要调用方分段。
+ */
+final class MappedCharSequence implements CharSequence {
+    private final MappedByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    private MappedCharSequence(MappedByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    static MappedCharSequence map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("file too large to map as one sequence: " + size + " bytes");
+            // 映射建立之后关闭 channel 不影响 buffer
+            return new MappedCharSequence(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), 0, (int) size);
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        return (char) (buffer.get(offset + index) & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end)
+            throw new IndexOutOfBoundsException("[" + start + ", " + end + "), length " + length);
+        return new MappedCharSequence(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++)
+            chars[i] = (char) (buffer.get(offset + i) & 0xff);
+        return new String(chars);
+    }
 }
 // @lc code=end
 
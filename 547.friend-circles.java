@@ -1,3 +1,11 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.Queue;
 
@@ -44,6 +52,111 @@ class Solution {
         return count;
     }
 
+    // 并查集版本（UnionFind.java），只看上三角；边是一条条到来时直接调用 union，count() 就是当前的朋友圈数
+    public int findCircleNumUnionFind(int[][] M) {
+        UnionFind uf = new UnionFind(M.length);
+        for (int i = 0; i < M.length; i++) {
+            for (int j = i + 1; j < M.length; j++) {
+                if (M[i][j] == 1)
+                    uf.union(i, j);
+            }
+        }
+        return uf.count();
+    }
+
+    /**
+     * 稀疏图版本：n 个人，edges[k] = {a, b} 表示 a 和 b 是朋友
+     * 先转成 CSR（offsets/targets）再遍历，时间和内存都是 O(V+E)，不需要 n*n 的矩阵。
+     */
+    public int findCircleNum(int n, int[][] edges) {
+        int[] offsets = new int[n + 1];
+        for (int[] e : edges) {
+            offsets[e[0] + 1]++;
+            offsets[e[1] + 1]++;
+        }
+        for (int i = 0; i < n; i++)
+            offsets[i + 1] += offsets[i];
+        int[] targets = new int[offsets[n]];
+        int[] next = Arrays.copyOf(offsets, n);
+        for (int[] e : edges) {
+            targets[next[e[0]]++] = e[1];
+            targets[next[e[1]]++] = e[0];
+        }
+        return findCircleNum(offsets, targets);
+    }
+
+    /** CSR 版本：i 的朋友是 targets[offsets[i] .. offsets[i+1])，边要双向都存 */
+    public int findCircleNum(int[] offsets, int[] targets) {
+        return componentSizes(IntBuffer.wrap(offsets), IntBuffer.wrap(targets)).length;
+    }
+
+    /**
+     * 每个朋友圈的人数（按圈里最小编号的顺序），length 就是朋友圈数
+     * 用数组做 BFS 队列，每个点只入队一次，O(V+E)。
+     */
+    public int[] componentSizes(IntBuffer offsets, IntBuffer targets) {
+        int n = offsets.limit() - 1;
+        boolean[] seen = new boolean[n];
+        int[] queue = new int[n];
+        int[] sizes = new int[16];
+        int count = 0;
+        for (int s = 0; s < n; s++) {
+            if (seen[s])
+                continue;
+            int head = 0, tail = 0;
+            queue[tail++] = s;
+            seen[s] = true;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int k = offsets.get(u), end = offsets.get(u + 1); k < end; k++) {
+                    int v = targets.get(k);
+                    if (!seen[v]) {
+                        seen[v] = true;
+                        queue[tail++] = v;
+                    }
+                }
+            }
+            if (count == sizes.length)
+                sizes = Arrays.copyOf(sizes, count << 1);
+            sizes[count++] = tail;
+        }
+        return Arrays.copyOf(sizes, count);
+    }
+
+    /**
+     * 直接内存映射磁盘上的 CSR 文件来算朋友圈，图不用整个读进堆
+     * 文件格式（小端）：int n，int m，int[n+1] offsets，int[m] targets；单个文件不超过 2GB。
+     */
+    public int[] componentSizes(Path csrFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(csrFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int n = buffer.getInt(0);
+            int m = buffer.getInt(4);
+            buffer.position(8);
+            IntBuffer ints = buffer.asIntBuffer();
+            IntBuffer offsets = ints.duplicate();
+            offsets.limit(n + 1);
+            ints.position(n + 1);
+            ints.limit(n + 1 + m);
+            return componentSizes(offsets, ints.slice());
+        }
+    }
+
+    /** 按 componentSizes(Path) 的格式写出 CSR 文件 */
+    public static void writeCsr(Path csrFile, int[] offsets, int[] targets) throws IOException {
+        int n = offsets.length - 1;
+        long bytes = 8L + 4L * (n + 1) + 4L * targets.length;
+        try (FileChannel channel = FileChannel.open(csrFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(n).putInt(targets.length);
+            buffer.asIntBuffer().put(offsets).put(targets);
+            buffer.force();
+        }
+    }
+
     public void dfs(int [][]M,int []visited,int i){
         for(int j=0;j<M.length;j++){
             if(M[i][j] == 1 && visited[j] == 0){
@@ -1,3 +1,7 @@
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
 /*
  * @lc app=leetcode.cn id=622 lang=java
  *
@@ -66,6 +70,235 @@ class MyCircularQueue {
     }
 }
 
+/**
+ * head/tail 各占一条缓存行，避免生产者和消费者互相踩（false sharing）。
+ * cache 是拥有这个计数器的一侧自己用的缓存（SPSC 里生产者缓存的 head、消费者缓存的 tail），
+ * 和计数器放在同一条缓存行里，只由同一个线程写。
+ */
+class PaddedAtomicLong extends AtomicLong {
+    long cache;
+    long p1, p2, p3, p4, p5, p6;
+
+    PaddedAtomicLong(long initialValue) {
+        super(initialValue);
+    }
+}
+
+/**
+ * 单生产者/单消费者版本，wait-free
+ * enQueue 只能由生产者线程调用，deQueue/Front 只能由消费者线程调用；
+ * 写完 data 之后用 lazySet 发布 tail（store-release），不需要 CAS。
+ * 生产者缓存一份 head，只有看起来满了才去读消费者的 head；两份缓存分别放在 tail、head 的填充对象里，
+ * 不会和对方线程写的字段共享缓存行。
+ */
+class SpscCircularQueue {
+    private final int[] data;
+    private final int capacity;
+    private final PaddedAtomicLong head = new PaddedAtomicLong(0);   // head.cache：消费者缓存的 tail
+    private final PaddedAtomicLong tail = new PaddedAtomicLong(0);   // tail.cache：生产者缓存的 head
+
+    public SpscCircularQueue(int k) {
+        this.data = new int[k];
+        this.capacity = k;
+    }
+
+    public boolean enQueue(int value) {
+        long t = tail.get();
+        if (t - tail.cache == capacity) {
+            tail.cache = head.get();
+            if (t - tail.cache == capacity)
+                return false;
+        }
+        data[(int) (t % capacity)] = value;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    public boolean deQueue() {
+        long h = head.get();
+        if (h == head.cache) {
+            head.cache = tail.get();
+            if (h == head.cache)
+                return false;
+        }
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    public int Front() {
+        long h = head.get();
+        if (h == head.cache) {
+            head.cache = tail.get();
+            if (h == head.cache)
+                return -1;
+        }
+        return data[(int) (h % capacity)];
+    }
+
+    /** 生产者线程调用时结果是准确的，其他线程调用只是一个快照。 */
+    public int Rear() {
+        long t = tail.get();
+        if (t == head.get())
+            return -1;
+        return data[(int) ((t - 1) % capacity)];
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    public boolean isFull() {
+        return tail.get() - head.get() == capacity;
+    }
+}
+
+/**
+ * 多生产者/多消费者版本，基于 CAS（Vyukov bounded MPMC queue）
+ * 每个槽位带一个序号：seq == pos 表示可写，seq == pos + 1 表示可读，
+ * 读完后把 seq 设为 pos + ring，留给下一圈的生产者。
+ * ring 为 1 时"可读"和"下一圈可写"是同一个序号，会覆盖还没取走的元素，所以槽位数取 max(2, 不小于 k 的 2 的幂)，
+ * 下标用掩码；容量 k 另外用 tail - head 限制。
+ * 多消费者下 Front + deQueue 不是原子的，取值请用 poll()。
+ */
+class MpmcCircularQueue {
+    /** poll() 在队列为空时的返回值 */
+    public static final long EMPTY = Long.MIN_VALUE;
+
+    private final int[] data;
+    private final AtomicLongArray sequence;
+    private final int capacity;
+    private final int mask;
+    private final PaddedAtomicLong head = new PaddedAtomicLong(0);
+    private final PaddedAtomicLong tail = new PaddedAtomicLong(0);
+
+    public MpmcCircularQueue(int k) {
+        if (k <= 0 || k > 1 << 30)
+            throw new IllegalArgumentException("capacity out of range: " + k);
+        int ring = Math.max(2, Integer.highestOneBit(k - 1) << 1);
+        this.data = new int[ring];
+        this.capacity = k;
+        this.mask = ring - 1;
+        this.sequence = new AtomicLongArray(ring);
+        for (int i = 0; i < ring; i++)
+            sequence.set(i, i);
+    }
+
+    public boolean enQueue(int value) {
+        while (true) {
+            long pos = tail.get();
+            // head 是在 tail 之后读的，这时已经有 k 个元素就是真的满了
+            if (pos - head.get() >= capacity)
+                return false;
+            int idx = (int) (pos & mask);
+            long dif = sequence.get(idx) - pos;
+            if (dif == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    data[idx] = value;
+                    sequence.lazySet(idx, pos + 1);
+                    return true;
+                }
+            } else if (dif < 0) {
+                return false;   // 满了：这个槽位上一圈的数据还没被取走
+            }
+        }
+    }
+
+    /** 取出并返回队头元素，队列为空时返回 EMPTY。 */
+    public long poll() {
+        while (true) {
+            long pos = head.get();
+            int idx = (int) (pos & mask);
+            long dif = sequence.get(idx) - (pos + 1);
+            if (dif == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    int value = data[idx];
+                    sequence.lazySet(idx, pos + mask + 1);
+                    return value;
+                }
+            } else if (dif < 0) {
+                return EMPTY;
+            }
+        }
+    }
+
+    public boolean deQueue() {
+        return poll() != EMPTY;
+    }
+
+    public int Front() {
+        while (true) {
+            long pos = head.get();
+            int idx = (int) (pos & mask);
+            if (sequence.get(idx) != pos + 1)
+                return -1;
+            int value = data[idx];
+            // 读的过程中槽位没有被消费掉，值才有效
+            if (head.get() == pos)
+                return value;
+        }
+    }
+
+    public int Rear() {
+        while (true) {
+            long pos = tail.get() - 1;
+            if (pos < head.get())
+                return -1;
+            int idx = (int) (pos & mask);
+            if (sequence.get(idx) != pos + 1)
+                return -1;   // 已占位但还没写完
+            int value = data[idx];
+            if (sequence.get(idx) == pos + 1)
+                return value;
+        }
+    }
+
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+
+    public boolean isFull() {
+        return tail.get() - head.get() >= capacity;
+    }
+}
+
+/**
+ * MpmcCircularQueue 的回归测试：单线程下随机操作，结果必须和 MyCircularQueue 完全一致，
+ * 重点是 k = 1（原来 enQueue、deQueue、enQueue 之后再 enQueue 会覆盖还没取走的元素）和不是 2 的幂的 k。
+ * 直接运行 main，失败时抛 IllegalStateException。
+ */
+class MpmcCircularQueueTest {
+    public static void main(String[] args) {
+        MpmcCircularQueue one = new MpmcCircularQueue(1);
+        check(one.enQueue(1), "k=1: first enQueue failed");
+        check(one.deQueue(), "k=1: deQueue failed");
+        check(one.enQueue(2), "k=1: enQueue after deQueue failed");
+        check(!one.enQueue(3), "k=1: enQueue on a full queue overwrote the element");
+        check(one.isFull() && one.Front() == 2 && one.Rear() == 2, "k=1: wrong state after rejected enQueue");
+        check(one.poll() == 2 && one.isEmpty(), "k=1: wrong element polled");
+
+        Random random = new Random(42);
+        for (int k = 1; k <= 9; k++) {
+            MyCircularQueue expected = new MyCircularQueue(k);
+            MpmcCircularQueue actual = new MpmcCircularQueue(k);
+            for (int i = 0; i < 10_000; i++) {
+                int op = random.nextInt(3);
+                if (op == 0)
+                    check(expected.enQueue(i) == actual.enQueue(i), "k=" + k + ": enQueue differs at op " + i);
+                else if (op == 1)
+                    check(expected.deQueue() == actual.deQueue(), "k=" + k + ": deQueue differs at op " + i);
+                check(expected.Front() == actual.Front() && expected.Rear() == actual.Rear()
+                        && expected.isEmpty() == actual.isEmpty() && expected.isFull() == actual.isFull(),
+                        "k=" + k + ": state differs at op " + i);
+            }
+        }
+        System.out.println("MpmcCircularQueueTest passed");
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok)
+            throw new IllegalStateException(message);
+    }
+}
 
 /**
  * Your MyCircularQueue object will be instantiated and called as such:
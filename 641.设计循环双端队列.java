@@ -96,6 +96,45 @@ class MyCircularDeque {
         return rear==front && size == capacity;
 
     }
+
+    /** 批量从队尾插入 src[off, off+len)，空间不够时只插入能放下的部分，返回实际插入个数。 */
+    public int insertLastAll(int[] src, int off, int len) {
+        if (off < 0 || len < 0 || off + len > src.length) throw new IndexOutOfBoundsException();
+        int n = Math.min(len, capacity - size);
+        if (n == 0) return 0;
+        //跨过数组末尾时分两段拷贝
+        int first = Math.min(n, capacity - rear);
+        System.arraycopy(src, off, myqueue, rear, first);
+        System.arraycopy(src, off + first, myqueue, 0, n - first);
+        rear = (rear + n) % capacity;
+        size += n;
+        return n;
+    }
+
+    /** 批量从队头取出最多 max 个元素，按队头到队尾的顺序写入 dst，返回实际取出个数。 */
+    public int drainFront(int[] dst, int max) {
+        int n = Math.min(Math.min(max, size), dst.length);
+        if (n <= 0) return 0;
+        int first = Math.min(n, capacity - front);
+        System.arraycopy(myqueue, front, dst, 0, first);
+        System.arraycopy(myqueue, 0, dst, first, n - first);
+        front = (front + n) % capacity;
+        size -= n;
+        return n;
+    }
+
+    /** 批量从队尾取出最多 max 个元素；写入 dst 的顺序仍是队列中的顺序（dst[n-1] 是原来的队尾），返回实际取出个数。 */
+    public int drainLast(int[] dst, int max) {
+        int n = Math.min(Math.min(max, size), dst.length);
+        if (n <= 0) return 0;
+        int start = (rear - n + capacity) % capacity;
+        int first = Math.min(n, capacity - start);
+        System.arraycopy(myqueue, start, dst, 0, first);
+        System.arraycopy(myqueue, 0, dst, first, n - first);
+        rear = start;
+        size -= n;
+        return n;
+    }
 }
 
 
@@ -87,6 +87,169 @@ class MyHashSet {
     }
 }
 
+/**
+ * 开放寻址版本：keys 放在一个 int[] 里，线性探测
+ * size 超过 capacity * loadFactor 时容量翻倍，删除用向后移位代替墓碑，
+ * add/remove/contains 除扩容外不分配对象。
+ */
+class MyHashSetOpen {
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private final float loadFactor;
+    private int[] keys;
+    private int mask;
+    private int shift;
+    private int threshold;
+    private int size;
+    private boolean hasFreeKey;
+
+    public MyHashSetOpen() {
+        this(16, 0.5f);
+    }
+
+    public MyHashSetOpen(int expected, float loadFactor) {
+        if (!(loadFactor > 0 && loadFactor < 1))
+            throw new IllegalArgumentException("loadFactor must be in (0, 1): " + loadFactor);
+        this.loadFactor = loadFactor;
+        int cap = 16;
+        while (cap * loadFactor < expected) cap <<= 1;
+        allocate(cap);
+    }
+
+    public void add(int key) {
+        if (key == FREE) {
+            if (!hasFreeKey) size++;
+            hasFreeKey = true;
+            return;
+        }
+        int i = slot(key);
+        int k;
+        while ((k = keys[i]) != FREE) {
+            if (k == key) return;
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        if (++size > threshold) rehash(keys.length << 1);
+    }
+
+    public void remove(int key) {
+        if (key == FREE) {
+            if (hasFreeKey) size--;
+            hasFreeKey = false;
+            return;
+        }
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == FREE) return;
+            i = (i + 1) & mask;
+        }
+        size--;
+        int gap = i;
+        int j = (i + 1) & mask;
+        while (keys[j] != FREE) {
+            // 探测起点不在 (gap, j] 区间内的元素才能前移
+            if (((j - slot(keys[j])) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[gap] = FREE;
+    }
+
+    /** Returns true if this set contains the specified element */
+    public boolean contains(int key) {
+        if (key == FREE) return hasFreeKey;
+        int i = slot(key);
+        int k;
+        while ((k = keys[i]) != FREE) {
+            if (k == key) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(int key) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private void allocate(int cap) {
+        keys = new int[cap];
+        Arrays.fill(keys, FREE);
+        mask = cap - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(cap);
+        threshold = Math.min(cap - 1, (int) (cap * loadFactor));
+    }
+
+    private void rehash(int cap) {
+        int[] old = keys;
+        allocate(cap);
+        for (int k : old) {
+            if (k == FREE) continue;
+            int j = slot(k);
+            while (keys[j] != FREE) j = (j + 1) & mask;
+            keys[j] = k;
+        }
+    }
+}
+
+/**
+ * 位图版本：适合 key 非负且比较稠密的场景（比如题目里的 0 <= key <= 10^6）
+ * 每个 key 占 1 bit，超出当前范围时按 2 倍扩容。
+ */
+class MyHashSetBitmap {
+    private long[] words;
+    private int size;
+
+    public MyHashSetBitmap() {
+        this(1 << 10);
+    }
+
+    public MyHashSetBitmap(int maxKey) {
+        words = new long[(maxKey >>> 6) + 1];
+    }
+
+    public void add(int key) {
+        checkKey(key);
+        int w = key >>> 6;
+        if (w >= words.length) words = Arrays.copyOf(words, Math.max(w + 1, words.length << 1));
+        long bit = 1L << key;
+        if ((words[w] & bit) == 0) {
+            words[w] |= bit;
+            size++;
+        }
+    }
+
+    public void remove(int key) {
+        checkKey(key);
+        int w = key >>> 6;
+        if (w >= words.length) return;
+        long bit = 1L << key;
+        if ((words[w] & bit) != 0) {
+            words[w] &= ~bit;
+            size--;
+        }
+    }
+
+    public boolean contains(int key) {
+        checkKey(key);
+        int w = key >>> 6;
+        return w < words.length && (words[w] & (1L << key)) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static void checkKey(int key) {
+        if (key < 0) throw new IllegalArgumentException("bitmap mode only supports non-negative keys: " + key);
+    }
+}
+
 /**
  * Your MyHashSet object will be instantiated and called as such:
  * MyHashSet obj = new MyHashSet();
@@ -56,6 +56,137 @@ class MyHashMap {
     }
 }
 
+/**
+ * 开放寻址版本：一张 int[] 表 + 线性探测
+ * 容量保持 2 的幂，负载超过 0.5 时扩容一倍；删除时向后移位（backward-shift），不留墓碑。
+ * put/get/remove 在不扩容时不分配任何对象，也不装箱。
+ * FREE 作为空槽标记，key 恰好等于 FREE 时单独存放。
+ */
+class MyHashMapOpen {
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int shift;
+    private int size;
+
+    private boolean hasFreeKey;
+    private int freeValue;
+
+    public MyHashMapOpen() {
+        this(16);
+    }
+
+    public MyHashMapOpen(int expected) {
+        int cap = 16;
+        while (cap < expected * 2) cap <<= 1;
+        allocate(cap);
+    }
+
+    public void put(int key, int value) {
+        if (key == FREE) {
+            if (!hasFreeKey) size++;
+            hasFreeKey = true;
+            freeValue = value;
+            return;
+        }
+        int i = slot(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > (mask + 1) >> 1) rehash((mask + 1) << 1);
+    }
+
+    /** 不存在时返回 -1 */
+    public int get(int key) {
+        if (key == FREE) return hasFreeKey ? freeValue : -1;
+        int i = slot(key);
+        int k;
+        while ((k = keys[i]) != FREE) {
+            if (k == key) return values[i];
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    public void remove(int key) {
+        if (key == FREE) {
+            if (hasFreeKey) size--;
+            hasFreeKey = false;
+            return;
+        }
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == FREE) return;
+            i = (i + 1) & mask;
+        }
+        size--;
+        // 把后面同一探测链上的元素往前挪，填补空出来的位置
+        int gap = i;
+        int j = (i + 1) & mask;
+        while (keys[j] != FREE) {
+            int home = slot(keys[j]);
+            // home 不在 (gap, j] 之间时，j 处的元素可以搬到 gap
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[gap] = FREE;
+    }
+
+    public boolean contains(int key) {
+        if (key == FREE) return hasFreeKey;
+        int i = slot(key);
+        int k;
+        while ((k = keys[i]) != FREE) {
+            if (k == key) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Fibonacci hashing，取乘积的高位
+    private int slot(int key) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private void allocate(int cap) {
+        keys = new int[cap];
+        values = new int[cap];
+        Arrays.fill(keys, FREE);
+        mask = cap - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(cap);
+    }
+
+    private void rehash(int cap) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(cap);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int k = oldKeys[i];
+            if (k == FREE) continue;
+            int j = slot(k);
+            while (keys[j] != FREE) j = (j + 1) & mask;
+            keys[j] = k;
+            values[j] = oldValues[i];
+        }
+    }
+}
+
 /**
  * Your MyHashMap object will be instantiated and called as such:
  * MyHashMap obj = new MyHashMap();
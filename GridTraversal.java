@@ -0,0 +1,115 @@
+import java.util.Arrays;
+
+/**
+ * 网格遍历引擎，给 200.number-of-islands、130.surrounded-regions、212.word-search-ii 共用
+ *
+ * 这几道题原来都用递归 dfs，连通区域很大时会栈溢出；numIslands 的 bfs 还给每个格子 new 一个 int[] 放进 LinkedList。
+ * 这里改成显式的 int 栈，格子编码成 row * cols + col，栈在构造时分配、不够再扩容，遍历过程中不再分配对象，
+ * 10^8 个格子的网格也不需要递归。
+ *
+ * 两种遍历：
+ * (1) flood：连通区域填充。visitor.visit(cell) 返回 true 表示接受这个格子（调用方自己负责标记，避免重复访问），
+ *     引擎再把它的邻居依次交给 visitor；每个格子最多入栈一次，栈深度不超过格子数。
+ * (2) backtrack：回溯搜索（单词搜索那种一条路径不能重复经过同一格子的 DFS）。
+ *     visitor.enter(cell, depth) 返回 true 表示沿这个格子继续往下走，回退时调用 visitor.exit(cell, depth)。
+ *
+ * 支持 4 邻域和 8 邻域。
+ */
+final class GridTraversal {
+    interface CellVisitor {
+        boolean visit(int cell);
+    }
+
+    interface PathVisitor {
+        boolean enter(int cell, int depth);
+
+        void exit(int cell, int depth);
+    }
+
+    private static final int[] DR4 = {-1, 1, 0, 0};
+    private static final int[] DC4 = {0, 0, -1, 1};
+    private static final int[] DR8 = {-1, 1, 0, 0, -1, -1, 1, 1};
+    private static final int[] DC8 = {0, 0, -1, 1, -1, 1, -1, 1};
+
+    private final int rows;
+    private final int cols;
+    private final int[] dr;
+    private final int[] dc;
+    private int[] stack;
+    private int[] dirs;   // backtrack 用：每一层下一个要尝试的方向
+
+    GridTraversal(int rows, int cols, boolean eightNeighbours) {
+        if ((long) rows * cols > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("grid too large: " + rows + "x" + cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.dr = eightNeighbours ? DR8 : DR4;
+        this.dc = eightNeighbours ? DC8 : DC4;
+        this.stack = new int[Math.max(16, Math.min(rows * cols, 1 << 16))];
+    }
+
+    int cell(int row, int col) {
+        return row * cols + col;
+    }
+
+    /** 从 start 开始填充一个连通区域，返回被接受的格子数 */
+    int flood(int start, CellVisitor visitor) {
+        if (!visitor.visit(start))
+            return 0;
+        int count = 1;
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            int cell = stack[--top];
+            int r = cell / cols, c = cell - r * cols;
+            for (int d = 0; d < dr.length; d++) {
+                int nr = r + dr[d], nc = c + dc[d];
+                if (nr < 0 || nc < 0 || nr >= rows || nc >= cols)
+                    continue;
+                int next = nr * cols + nc;
+                if (visitor.visit(next)) {
+                    count++;
+                    if (top == stack.length)
+                        stack = Arrays.copyOf(stack, Math.min(Math.max(top << 1, 16), rows * cols));
+                    stack[top++] = next;
+                }
+            }
+        }
+        return count;
+    }
+
+    /** 从 start 开始回溯搜索 */
+    void backtrack(int start, PathVisitor visitor) {
+        if (!visitor.enter(start, 0))
+            return;
+        if (dirs == null || dirs.length < stack.length)
+            dirs = new int[stack.length];
+        int depth = 0;
+        stack[0] = start;
+        dirs[0] = 0;
+        while (depth >= 0) {
+            int cell = stack[depth];
+            int d = dirs[depth];
+            if (d == dr.length) {
+                visitor.exit(cell, depth);
+                depth--;
+                continue;
+            }
+            dirs[depth] = d + 1;
+            int r = cell / cols, c = cell - r * cols;
+            int nr = r + dr[d], nc = c + dc[d];
+            if (nr < 0 || nc < 0 || nr >= rows || nc >= cols)
+                continue;
+            int next = nr * cols + nc;
+            if (visitor.enter(next, depth + 1)) {
+                depth++;
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth << 1);
+                    dirs = Arrays.copyOf(dirs, depth << 1);
+                }
+                stack[depth] = next;
+                dirs[depth] = 0;
+            }
+        }
+    }
+}
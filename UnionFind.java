@@ -0,0 +1,134 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 并查集（Disjoint Set），给 547.friend-circles、200.number-of-islands 等连通性问题共用
+ *
+ * parent/rank 都是 int[]：find 做路径压缩（路径减半），union 按秩合并，均摊复杂度接近 O(1)。
+ * 支持边一条一条到达（在线），count() 随时给出当前的连通分量数，不需要重新扫描整个矩阵。
+ */
+class UnionFind {
+    private final int[] parent;
+    private final int[] rank;
+    private int count;
+
+    UnionFind(int n) {
+        parent = new int[n];
+        rank = new int[n];
+        for (int i = 0; i < n; i++)
+            parent[i] = i;
+        count = n;
+    }
+
+    int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];   // 路径减半
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /** 合并 a、b 所在的集合，原来就在同一个集合时返回 false */
+    boolean union(int a, int b) {
+        int ra = find(a), rb = find(b);
+        if (ra == rb)
+            return false;
+        if (rank[ra] < rank[rb]) {
+            parent[ra] = rb;
+        } else if (rank[ra] > rank[rb]) {
+            parent[rb] = ra;
+        } else {
+            parent[rb] = ra;
+            rank[ra]++;
+        }
+        count--;
+        return true;
+    }
+
+    boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /** 当前的连通分量数 */
+    int count() {
+        return count;
+    }
+
+    /** 某些元素一开始不算（比如还不是陆地的格子）时，用它调整分量数 */
+    void adjustCount(int delta) {
+        count += delta;
+    }
+}
+
+/**
+ * 无锁并查集：多个线程可以同时 union/find
+ * parent 放在 AtomicIntegerArray 里。union 用 CAS 把一个根挂到另一个根下面，CAS 失败说明根变了，重新 find 再试；
+ * 挂的方向按元素的随机优先级（由下标散列得到）决定，不需要 rank 数组，也不会成环。
+ * find 的路径减半同样用 CAS，失败了也没关系（说明别的线程已经改过了）。
+ */
+class ConcurrentUnionFind {
+    private final AtomicIntegerArray parent;
+    private final AtomicInteger count;
+
+    ConcurrentUnionFind(int n) {
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++)
+            parent.set(i, i);
+        count = new AtomicInteger(n);
+    }
+
+    int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x)
+                return x;
+            int gp = parent.get(p);
+            if (p != gp)
+                parent.compareAndSet(x, p, gp);
+            x = gp;
+        }
+    }
+
+    boolean union(int a, int b) {
+        while (true) {
+            int ra = find(a), rb = find(b);
+            if (ra == rb)
+                return false;
+            // 优先级低的根挂到优先级高的根下面
+            if (less(rb, ra)) {
+                int t = ra;
+                ra = rb;
+                rb = t;
+            }
+            if (parent.compareAndSet(ra, ra, rb)) {
+                count.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    boolean connected(int a, int b) {
+        while (true) {
+            int ra = find(a), rb = find(b);
+            if (ra == rb)
+                return true;
+            // ra 仍然是根，说明 find(b) 之前两者确实不连通
+            if (parent.get(ra) == ra)
+                return false;
+        }
+    }
+
+    int count() {
+        return count.get();
+    }
+
+    private static boolean less(int a, int b) {
+        int pa = priority(a), pb = priority(b);
+        return pa != pb ? pa < pb : a < b;
+    }
+
+    private static int priority(int x) {
+        int h = x * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,194 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 二维 DP 的反对角线波前执行器，给 72.edit-distance、1143.longest-common-subsequence、
+ * 115.distinct-subsequences、5.longest-palindromic-substring 共用
+ *
+ * 这几道题的 dp[i][j] 都只依赖上、左、左上三个格子，原来都是按行填一整张 (n+1)*(m+1) 的表。
+ * 这里把表切成 tile*tile 的块，块 (tr, tc) 只依赖 (tr-1, tc)、(tr, tc-1)、(tr-1, tc-1)，
+ * 所以同一条反对角线 tr + tc = d 上的块互不相关，可以在 ForkJoinPool 上并行，一条对角线做完再做下一条。
+ *
+ * 整张表不存：每一列块只保留最近一块的最后一行（hBound[tc]，下标 0 是它左边那一格，正好是下一块要的左上角），
+ * 每一行块只保留最近一块的最后一列（vBound[tr]），块内就在这两段边界上原地滚动计算。
+ * 同一条对角线上的块 tr、tc 都不相同，各写各的边界，不需要加锁；对角线之间的 join 保证可见性。
+ * 常驻内存是 O(n + m) 个 long，10^5 * 10^5 的表也只要几 MB。
+ */
+final class WavefrontExecutor {
+    /** dp[i][j] 的递推式，i、j 从 1 开始；第 0 行和第 0 列由 top/left 给出 */
+    interface Recurrence {
+        long top(int j);
+
+        long left(int i);
+
+        long cell(int i, int j, long diag, long up, long left);
+    }
+
+    /** last 是 dp[rows][cols]；max 是所有 dp[i][j]（i、j >= 1）的最大值，相同时取 (i, j) 最小的那个 */
+    static final class Result {
+        final long last;
+        final long max;
+        final int maxRow;
+        final int maxCol;
+
+        Result(long last, long max, int maxRow, int maxCol) {
+            this.last = last;
+            this.max = max;
+            this.maxRow = maxRow;
+            this.maxCol = maxCol;
+        }
+    }
+
+    static final int DEFAULT_TILE = 512;
+
+    private final ForkJoinPool pool;
+    private final int tile;
+
+    /** pool 为 null 时在当前线程按对角线顺序串行执行，内存占用一样 */
+    WavefrontExecutor(ForkJoinPool pool, int tile) {
+        if (tile <= 0)
+            throw new IllegalArgumentException("tile must be positive: " + tile);
+        this.pool = pool;
+        this.tile = tile;
+    }
+
+    WavefrontExecutor(ForkJoinPool pool) {
+        this(pool, DEFAULT_TILE);
+    }
+
+    Result run(int rows, int cols, Recurrence recurrence) {
+        if (rows == 0 || cols == 0) {
+            long last = rows == 0 ? recurrence.top(cols) : recurrence.left(rows);
+            return new Result(last, Long.MIN_VALUE, -1, -1);
+        }
+        Run run = new Run(rows, cols, recurrence);
+        if (pool == null)
+            run.compute();
+        else
+            pool.invoke(run);
+        return run.result();
+    }
+
+    private final class Run extends RecursiveAction {
+        private final int rows, cols, tileRows, tileCols;
+        private final Recurrence recurrence;
+        private final long[][] hBound;   // hBound[tc][k]：第 tc 列块当前最后一行，k = 0 是左边一格
+        private final long[][] vBound;   // vBound[tr][k]：第 tr 行块当前最后一列
+        // 每个行块各自记录最大值，最后再合并
+        private final long[] bestValue;
+        private final int[] bestRow, bestCol;
+
+        Run(int rows, int cols, Recurrence recurrence) {
+            this.rows = rows;
+            this.cols = cols;
+            this.recurrence = recurrence;
+            tileRows = (rows + tile - 1) / tile;
+            tileCols = (cols + tile - 1) / tile;
+            hBound = new long[tileCols][];
+            for (int tc = 0; tc < tileCols; tc++) {
+                int j0 = tc * tile;
+                int width = Math.min(tile, cols - j0);
+                long[] h = new long[width + 1];
+                for (int k = 0; k <= width; k++)
+                    h[k] = recurrence.top(j0 + k);
+                hBound[tc] = h;
+            }
+            vBound = new long[tileRows][];
+            for (int tr = 0; tr < tileRows; tr++) {
+                int i0 = tr * tile;
+                int height = Math.min(tile, rows - i0);
+                long[] v = new long[height];
+                for (int k = 0; k < height; k++)
+                    v[k] = recurrence.left(i0 + 1 + k);
+                vBound[tr] = v;
+            }
+            bestValue = new long[tileRows];
+            bestRow = new int[tileRows];
+            bestCol = new int[tileRows];
+            Arrays.fill(bestValue, Long.MIN_VALUE);
+        }
+
+        @Override
+        protected void compute() {
+            List<Tile> wave = new ArrayList<>();
+            for (int d = 0; d < tileRows + tileCols - 1; d++) {
+                wave.clear();
+                for (int tr = Math.max(0, d - tileCols + 1); tr <= Math.min(d, tileRows - 1); tr++)
+                    wave.add(new Tile(this, tr, d - tr));
+                if (wave.size() == 1 || !inForkJoinPool()) {
+                    for (Tile t : wave)
+                        t.compute();
+                } else {
+                    ForkJoinTask.invokeAll(wave);
+                }
+            }
+        }
+
+        Result result() {
+            long[] h = hBound[tileCols - 1];
+            long max = Long.MIN_VALUE;
+            int maxRow = -1, maxCol = -1;
+            for (int tr = 0; tr < tileRows; tr++) {
+                if (bestValue[tr] > max || (bestValue[tr] == max && maxRow >= 0
+                        && (bestRow[tr] < maxRow || (bestRow[tr] == maxRow && bestCol[tr] < maxCol)))) {
+                    max = bestValue[tr];
+                    maxRow = bestRow[tr];
+                    maxCol = bestCol[tr];
+                }
+            }
+            return new Result(h[h.length - 1], max, maxRow, maxCol);
+        }
+
+        void computeTile(int tr, int tc) {
+            long[] row = hBound[tc];
+            long[] col = vBound[tr];
+            int i0 = tr * tile, j0 = tc * tile;
+            int width = row.length - 1;
+            long best = bestValue[tr];
+            int bi = bestRow[tr], bj = bestCol[tr];
+            for (int k = 0; k < col.length; k++) {
+                int i = i0 + 1 + k;
+                long diag = row[0];
+                long left = col[k];
+                row[0] = left;
+                for (int x = 1; x <= width; x++) {
+                    int j = j0 + x;
+                    long up = row[x];
+                    long v = recurrence.cell(i, j, diag, up, left);
+                    row[x] = v;
+                    if (v > best || (v == best && (i < bi || (i == bi && j < bj)))) {
+                        best = v;
+                        bi = i;
+                        bj = j;
+                    }
+                    diag = up;
+                    left = v;
+                }
+                col[k] = left;
+            }
+            bestValue[tr] = best;
+            bestRow[tr] = bi;
+            bestCol[tr] = bj;
+        }
+    }
+
+    private static final class Tile extends RecursiveAction {
+        private final Run run;
+        private final int tr, tc;
+
+        Tile(Run run, int tr, int tc) {
+            this.run = run;
+            this.tr = tr;
+            this.tc = tc;
+        }
+
+        @Override
+        protected void compute() {
+            run.computeTile(tr, tc);
+        }
+    }
+}